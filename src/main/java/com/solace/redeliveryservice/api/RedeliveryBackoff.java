@@ -0,0 +1,26 @@
+package com.solace.redeliveryservice.api;
+
+/**
+ * The exponential backoff used to calculate how long a message is delayed before it is redelivered.
+ * <p>
+ * This class has no dependencies, so that it can be shared by the DMQ consumer and the simulator.
+ *
+ * @author TKTheTechie
+ */
+public final class RedeliveryBackoff {
+
+    private RedeliveryBackoff() {
+    }
+
+    /**
+     * Calculate the exponential backoff delay for a message.
+     * @param redeliveryDelay - the configured base redelivery delay (in milliseconds).
+     * @param backOffFactor - the configured exponential backoff factor.
+     * @param redeliveryCount - Current redelivery count.
+     * @return delay (in milliseconds).
+     */
+    public static long calculateDelay(long redeliveryDelay, long backOffFactor, int redeliveryCount) {
+        return redeliveryDelay * ((long) Math.pow(backOffFactor, redeliveryCount));
+    }
+
+}
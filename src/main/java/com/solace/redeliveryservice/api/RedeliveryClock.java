@@ -0,0 +1,38 @@
+package com.solace.redeliveryservice.api;
+
+/**
+ * A source of time for scheduling redeliveries.
+ * <p>
+ * The engine and consumer read the time through this interface rather than directly from {@link System}, so that
+ * the scheduling logic can be driven by a virtual clock (e.g. when replaying recorded traffic in a simulator).
+ *
+ * @author TKTheTechie
+ */
+public interface RedeliveryClock {
+
+    /**
+     * Returns the current wall clock time. This is only used for reporting, never for scheduling.
+     *
+     * @return current time (in milliseconds since the epoch).
+     */
+    public long currentTimeMillis();
+
+    /**
+     * Returns the current value of a monotonic time source, with the same semantics as {@link System#nanoTime()}:
+     * the origin is arbitrary, so values are only meaningful when subtracted from one another.
+     *
+     * @return current monotonic time (in nanoseconds).
+     */
+    public long nanoTime();
+
+    /**
+     * Returns a possibly cached reading of {@link #nanoTime()}, which may lag behind it by a bounded amount. This is
+     * used to stamp release times when messages are submitted, where a cheap read matters more than precision.
+     *
+     * @return current monotonic time, possibly cached (in nanoseconds).
+     */
+    public default long coarseNanoTime() {
+        return nanoTime();
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.solace.redeliveryservice.impl;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RedeliveryClock} whose {@link #coarseNanoTime()} is a cached monotonic time, refreshed by a background
+ * thread at a fixed resolution. Reading it is a single volatile read, which takes {@link System#nanoTime()} off the
+ * hot path of stamping release times on submitted messages at high volume. Release times are still checked against
+ * the precise {@link #nanoTime()}.
+ * <p>
+ * The cached time is read ahead by one resolution, so messages may be released up to the configured resolution late.
+ * This only keeps them from being released early on a best-effort basis: if the refresh thread is held up (e.g. by a GC
+ * pause or CPU starvation), the cached time lags further and messages stamped in the meantime may be released early by
+ * that extra lag. The resolution should be well below the redelivery delay (and at most the release granularity, if one
+ * is configured). Only active when
+ * <code>solace.redelivery.clock.coarse.resolutionInMs</code> is set to a value greater than 0; with 0 or less it
+ * behaves like the {@link SystemRedeliveryClock}.
+ * @author TKTheTechie
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "solace.redelivery.clock.coarse.resolutionInMs")
+public class CoarseRedeliveryClock implements RedeliveryClock {
+
+    @Value("${solace.redelivery.clock.coarse.resolutionInMs}")
+    private long RESOLUTION;
+
+    private long resolutionInNanos;
+
+    private volatile long cachedNanoTime;
+
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Starts the background thread refreshing the cached time, unless the resolution disables the cache.
+     */
+    @PostConstruct
+    public void init() {
+        if (RESOLUTION <= 0) {
+            return;
+        }
+
+        resolutionInNanos = TimeUnit.MILLISECONDS.toNanos(RESOLUTION);
+        cachedNanoTime    = System.nanoTime();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redelivery-coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> cachedNanoTime = System.nanoTime(), RESOLUTION, RESOLUTION, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long coarseNanoTime() {
+        if (ticker == null) {
+            return System.nanoTime();
+        }
+        return cachedNanoTime + resolutionInNanos;
+    }
+
+}
@@ -1,42 +1,132 @@
 package com.solace.redeliveryservice.impl;
 
 import com.solace.messaging.receiver.InboundMessage;
+import com.solace.redeliveryservice.api.RedeliveryClock;
 
-import java.util.Objects;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class encapsulates an Inbound Solace Message with an appropriate delay to be picked up by the
- * @see SolaceQueueMessageRedeliveryEngine
+ * {@link SolaceQueueMessageRedeliveryEngine}.
+ * <p>
+ * The release time is kept on the clock's monotonic nanosecond time base, so it is not affected by changes to the
+ * wall clock. Like {@link System#nanoTime()}, release times are only ever compared by their difference, which stays
+ * correct across numerical overflow of the time base.
  * @author TKTheTechie
  */
 public class DelayedSolaceMessage implements Delayed {
 
-    private long startTime;
+    // Delays are capped so that the difference between any two release times cannot overflow (about 146 years)
+    private static final long MAXIMUM_DELAY_IN_NANOS = Long.MAX_VALUE >> 1;
+
+    // Breaks ties between messages with the same release time, so that they are released in submission order
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private long startTimeInNanos;
+
+    private final long sequence = SEQUENCE.getAndIncrement();
 
     private InboundMessage message;
 
+    private int redeliveryCount;
+
+    private int payloadSize;
+
+    private RedeliveryClock clock;
+
+    private PendingRedeliveryStatistics.Entry statisticsEntry;
+
     public DelayedSolaceMessage(InboundMessage message, long delayInMillis){
-        this.message   = message;
-        this.startTime = System.currentTimeMillis() + delayInMillis;
+        this(message, delayInMillis, SystemRedeliveryClock.INSTANCE);
+    }
+
+    public DelayedSolaceMessage(InboundMessage message, long delayInMillis, RedeliveryClock clock){
+        this(message, delayInMillis, 0, 0, clock);
+    }
+
+    /**
+     * @param message - the message to redeliver.
+     * @param delayInMillis - delay before the message is released (in milliseconds).
+     * @param redeliveryCount - the number of times the message has already been redelivered.
+     * @param payloadSize - size of the message payload (in bytes).
+     * @param clock - clock used to schedule the release.
+     */
+    public DelayedSolaceMessage(InboundMessage message, long delayInMillis, int redeliveryCount, int payloadSize, RedeliveryClock clock){
+        this.message         = message;
+        this.redeliveryCount = redeliveryCount;
+        this.payloadSize     = payloadSize;
+        this.clock           = clock;
+        this.startTimeInNanos = clock.coarseNanoTime() + Math.min(TimeUnit.MILLISECONDS.toNanos(Math.max(delayInMillis, 0L)), MAXIMUM_DELAY_IN_NANOS);
     }
 
     @Override
     public long getDelay(TimeUnit unit) {
-        long diff = this.startTime - System.currentTimeMillis();
-        return unit.convert(diff, TimeUnit.MILLISECONDS);
+        long diff = this.startTimeInNanos - clock.nanoTime();
+        return unit.convert(diff, TimeUnit.NANOSECONDS);
     }
 
     @Override
     public int compareTo(Delayed o) {
-         return Math.toIntExact(this.startTime - ((DelayedSolaceMessage) o).startTime);
+        if (o == this) {
+            return 0;
+        }
+
+        if (o instanceof DelayedSolaceMessage) {
+            DelayedSolaceMessage other = (DelayedSolaceMessage) o;
+            long diff = this.startTimeInNanos - other.startTimeInNanos;
+            if (diff != 0) {
+                return diff < 0 ? -1 : 1;
+            }
+            return Long.compare(this.sequence, other.sequence);
+        }
+
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Round the release time of this message up to the next multiple of the given granularity, so that messages
+     * due around the same time are released together. This must be called before the message is queued.
+     * @param granularityInMillis - release granularity (in milliseconds).
+     * @return the delay that was added (in nanoseconds).
+     */
+    protected long coalesce(long granularityInMillis) {
+        long granularityInNanos = TimeUnit.MILLISECONDS.toNanos(granularityInMillis);
+        long remainder = Math.floorMod(this.startTimeInNanos, granularityInNanos);
+        if (remainder == 0) {
+            return 0L;
+        }
+
+        long addedDelay = granularityInNanos - remainder;
+        this.startTimeInNanos += addedDelay;
+        return addedDelay;
     }
 
     public InboundMessage getMessage() {
         return message;
     }
 
+    public int getRedeliveryCount() {
+        return redeliveryCount;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    long getStartTimeInNanos() {
+        return startTimeInNanos;
+    }
+
+    PendingRedeliveryStatistics.Entry getStatisticsEntry() {
+        return statisticsEntry;
+    }
+
+    void setStatisticsEntry(PendingRedeliveryStatistics.Entry statisticsEntry) {
+        this.statisticsEntry = statisticsEntry;
+    }
+
     /**
      * Convenience function for returning an empty object to prevent NPEs
      * @return empty DelayedSolaceMessageObject
@@ -53,17 +143,18 @@ public class DelayedSolaceMessage implements Delayed {
         return this.message == null;
     }
 
+    // Equality follows the sequence number, consistent with compareTo and unaffected by coalescing the release time
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DelayedSolaceMessage that = (DelayedSolaceMessage) o;
-        return startTime == that.startTime && Objects.equals(message, that.message);
+        return sequence == that.sequence;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(startTime, message);
+        return Long.hashCode(sequence);
     }
     
 }
\ No newline at end of file
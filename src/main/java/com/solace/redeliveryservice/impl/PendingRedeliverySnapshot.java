@@ -0,0 +1,159 @@
+package com.solace.redeliveryservice.impl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A point in time view of the tasks pending in the redelivery engine.
+ * @see PendingRedeliveryStatistics
+ * @author TKTheTechie
+ */
+public class PendingRedeliverySnapshot {
+
+    private final long timestamp;
+
+    private final long pendingTasks;
+
+    private final long pendingBytes;
+
+    private final long dueTimeBucketWidth;
+
+    private final Map<Long, Long> dueIn;
+
+    private final Map<Integer, Long> redeliveryCounts;
+
+    private final Map<String, Long> destinations;
+
+    private final Map<Integer, Long> payloadSizes;
+
+    private final List<PendingTaskSummary> soonest;
+
+    private final List<PendingTaskSummary> oldest;
+
+    private final long coalescedTasks;
+
+    private final long totalCoalescingDelay;
+
+    private final long maximumCoalescingDelay;
+
+    private final long releaseBatches;
+
+    private final long batchedTasks;
+
+    public PendingRedeliverySnapshot(long timestamp, long pendingTasks, long pendingBytes, long dueTimeBucketWidth,
+                                     Map<Long, Long> dueIn, Map<Integer, Long> redeliveryCounts,
+                                     Map<String, Long> destinations, Map<Integer, Long> payloadSizes,
+                                     List<PendingTaskSummary> soonest, List<PendingTaskSummary> oldest,
+                                     long coalescedTasks, long totalCoalescingDelay, long maximumCoalescingDelay,
+                                     long releaseBatches, long batchedTasks) {
+        this.timestamp              = timestamp;
+        this.pendingTasks           = pendingTasks;
+        this.pendingBytes           = pendingBytes;
+        this.dueTimeBucketWidth     = dueTimeBucketWidth;
+        this.dueIn                  = dueIn;
+        this.redeliveryCounts       = redeliveryCounts;
+        this.destinations           = destinations;
+        this.payloadSizes           = payloadSizes;
+        this.soonest                = soonest;
+        this.oldest                 = oldest;
+        this.coalescedTasks         = coalescedTasks;
+        this.totalCoalescingDelay   = totalCoalescingDelay;
+        this.maximumCoalescingDelay = maximumCoalescingDelay;
+        this.releaseBatches         = releaseBatches;
+        this.batchedTasks           = batchedTasks;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getPendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * @return total payload size of the pending tasks (in bytes).
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public long getDueTimeBucketWidth() {
+        return dueTimeBucketWidth;
+    }
+
+    /**
+     * @return number of pending tasks keyed by how far from now their due time bucket starts (in milliseconds).
+     */
+    public Map<Long, Long> getDueIn() {
+        return dueIn;
+    }
+
+    /**
+     * @return number of pending tasks keyed by redelivery count.
+     */
+    public Map<Integer, Long> getRedeliveryCounts() {
+        return redeliveryCounts;
+    }
+
+    /**
+     * @return number of pending tasks keyed by the destination they will be released to.
+     */
+    public Map<String, Long> getDestinations() {
+        return destinations;
+    }
+
+    /**
+     * @return number of pending tasks keyed by the upper bound of their payload size bucket (in bytes).
+     */
+    public Map<Integer, Long> getPayloadSizes() {
+        return payloadSizes;
+    }
+
+    /**
+     * @return the tasks that will be released soonest, empty if sampling is disabled.
+     */
+    public List<PendingTaskSummary> getSoonest() {
+        return soonest;
+    }
+
+    /**
+     * @return the tasks that were submitted the longest time ago, empty if sampling is disabled.
+     */
+    public List<PendingTaskSummary> getOldest() {
+        return oldest;
+    }
+
+    /**
+     * @return number of tasks whose release time was rounded up to the release granularity since startup.
+     */
+    public long getCoalescedTasks() {
+        return coalescedTasks;
+    }
+
+    /**
+     * @return average delay added by rounding release times up to the release granularity (in milliseconds).
+     */
+    public double getAverageCoalescingDelay() {
+        return coalescedTasks == 0 ? 0d : (double) totalCoalescingDelay / coalescedTasks;
+    }
+
+    /**
+     * @return maximum delay added by rounding release times up to the release granularity (in milliseconds).
+     */
+    public long getMaximumCoalescingDelay() {
+        return maximumCoalescingDelay;
+    }
+
+    /**
+     * @return number of batches released through the bulk publish path since startup.
+     */
+    public long getReleaseBatches() {
+        return releaseBatches;
+    }
+
+    public double getAverageReleaseBatchSize() {
+        return releaseBatches == 0 ? 0d : (double) batchedTasks / releaseBatches;
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.solace.redeliveryservice.impl;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps incrementally maintained counters over the tasks pending in the redelivery engine, so that the schedule can be
+ * inspected without iterating (and locking) the engine's DelayQueue.
+ * <p>
+ * Tasks are counted by due time bucket, redelivery count, destination and payload size. Optionally, the soonest and
+ * oldest tasks are also tracked so that a bounded sample of them can be returned.
+ * @author TKTheTechie
+ */
+public class PendingRedeliveryStatistics {
+
+    private final RedeliveryClock clock;
+
+    private final long dueTimeBucketWidthInNanos;
+
+    private final int sampleSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder pendingTasks = new LongAdder();
+
+    private final LongAdder pendingBytes = new LongAdder();
+
+    private final LongAdder coalescedTasks = new LongAdder();
+
+    private final LongAdder totalCoalescingDelay = new LongAdder();
+
+    private final LongAccumulator maximumCoalescingDelay = new LongAccumulator(Long::max, 0L);
+
+    private final LongAdder releaseBatches = new LongAdder();
+
+    private final LongAdder releasedTasks = new LongAdder();
+
+    // keyed by the start of the due time bucket (on the clock's monotonic time base, in nanoseconds)
+    private final ConcurrentSkipListMap<Long, Long> dueTimeBuckets = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentMap<Integer, Long> redeliveryCounts = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Long> destinations = new ConcurrentHashMap<>();
+
+    // keyed by the upper bound of the payload size bucket (a power of 2)
+    private final ConcurrentMap<Integer, Long> payloadSizes = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<Entry> soonest = new ConcurrentSkipListSet<>(PendingRedeliveryStatistics::compareDueTime);
+
+    private final ConcurrentSkipListSet<Entry> oldest = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Entry::getSequence));
+
+    /**
+     * @param clock - clock used to timestamp tasks.
+     * @param dueTimeBucketWidthInMillis - width of the due time histogram buckets (in milliseconds).
+     * @param sampleSize - maximum number of soonest/oldest tasks returned in a snapshot, 0 disables sampling.
+     */
+    public PendingRedeliveryStatistics(RedeliveryClock clock, long dueTimeBucketWidthInMillis, int sampleSize) {
+        this.clock              = clock;
+        this.dueTimeBucketWidthInNanos = TimeUnit.MILLISECONDS.toNanos(dueTimeBucketWidthInMillis);
+        this.sampleSize         = sampleSize;
+    }
+
+    /**
+     * Account for a task that has been submitted to the engine.
+     * The task's redelivery count and payload size are taken from the task, so the message itself is not read again.
+     * @param task - the submitted task.
+     * @param destination - where the task will be released to.
+     */
+    public void record(DelayedSolaceMessage task, String destination) {
+        long now = clock.nanoTime();
+        Entry entry = new Entry(sequence.incrementAndGet(), now, task.getStartTimeInNanos(),
+                task.getRedeliveryCount(), destination, task.getPayloadSize());
+        task.setStatisticsEntry(entry);
+
+        pendingTasks.increment();
+        pendingBytes.add(entry.payloadSize);
+        dueTimeBuckets.merge(dueTimeBucketOf(entry.dueTime), 1L, Long::sum);
+        redeliveryCounts.merge(entry.redeliveryCount, 1L, Long::sum);
+        destinations.merge(entry.destination, 1L, Long::sum);
+        payloadSizes.merge(payloadSizeBucketOf(entry.payloadSize), 1L, Long::sum);
+
+        if (sampleSize > 0) {
+            soonest.add(entry);
+            oldest.add(entry);
+        }
+    }
+
+    /**
+     * Account for a task that has been taken off the engine's queue for release.
+     * @param task - the released task.
+     */
+    public void release(DelayedSolaceMessage task) {
+        Entry entry = task.getStatisticsEntry();
+        if (entry == null) {
+            return;
+        }
+
+        pendingTasks.decrement();
+        pendingBytes.add(-entry.payloadSize);
+        decrement(dueTimeBuckets, dueTimeBucketOf(entry.dueTime));
+        decrement(redeliveryCounts, entry.redeliveryCount);
+        decrement(destinations, entry.destination);
+        decrement(payloadSizes, payloadSizeBucketOf(entry.payloadSize));
+
+        if (sampleSize > 0) {
+            soonest.remove(entry);
+            oldest.remove(entry);
+        }
+    }
+
+    /**
+     * Account for the delay added to a task by rounding its release time up to the release granularity.
+     * @param addedDelayInNanos - the delay added (in nanoseconds).
+     */
+    public void recordCoalescing(long addedDelayInNanos) {
+        coalescedTasks.increment();
+        totalCoalescingDelay.add(addedDelayInNanos);
+        maximumCoalescingDelay.accumulate(addedDelayInNanos);
+    }
+
+    /**
+     * Account for a batch of tasks released together.
+     * @param batchSize - number of tasks in the batch.
+     */
+    public void recordReleaseBatch(int batchSize) {
+        releaseBatches.increment();
+        releasedTasks.add(batchSize);
+    }
+
+    /**
+     * Take a point in time view of the pending tasks. The counters are read individually, so a snapshot taken while
+     * tasks are being submitted or released may be off by the tasks in flight.
+     * @return snapshot of the pending tasks.
+     */
+    public PendingRedeliverySnapshot snapshot() {
+        long now = clock.nanoTime();
+        long currentBucket = dueTimeBucketOf(now);
+
+        // Due time buckets are reported relative to now (in milliseconds), anything overdue is reported as due now
+        NavigableMap<Long, Long> dueIn = new TreeMap<>();
+        for (Map.Entry<Long, Long> bucket : dueTimeBuckets.entrySet()) {
+            long bucketOffset = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, bucket.getKey() - currentBucket));
+            dueIn.merge(bucketOffset, bucket.getValue(), Long::sum);
+        }
+
+        return new PendingRedeliverySnapshot(clock.currentTimeMillis(), pendingTasks.sum(), pendingBytes.sum(),
+                TimeUnit.NANOSECONDS.toMillis(dueTimeBucketWidthInNanos), dueIn, new TreeMap<>(redeliveryCounts),
+                new TreeMap<>(destinations), new TreeMap<>(payloadSizes), sample(soonest, now), sample(oldest, now),
+                coalescedTasks.sum(), TimeUnit.NANOSECONDS.toMillis(totalCoalescingDelay.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maximumCoalescingDelay.get()), releaseBatches.sum(), releasedTasks.sum());
+    }
+
+    private List<PendingTaskSummary> sample(ConcurrentSkipListSet<Entry> entries, long now) {
+        List<PendingTaskSummary> sample = new ArrayList<>();
+        Iterator<Entry> iterator = entries.iterator();
+        while (sample.size() < sampleSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            sample.add(new PendingTaskSummary(TimeUnit.NANOSECONDS.toMillis(entry.dueTime - now),
+                    TimeUnit.NANOSECONDS.toMillis(now - entry.submittedAt), entry.redeliveryCount,
+                    entry.destination, entry.payloadSize));
+        }
+        return sample;
+    }
+
+    private long dueTimeBucketOf(long time) {
+        return time - Math.floorMod(time, dueTimeBucketWidthInNanos);
+    }
+
+    static int payloadSizeBucketOf(int payloadSize) {
+        if (payloadSize <= 1) {
+            return 1;
+        }
+        int bucket = Integer.highestOneBit(payloadSize - 1) << 1;
+        return bucket > 0 ? bucket : Integer.MAX_VALUE;
+    }
+
+    private static int compareDueTime(Entry first, Entry second) {
+        // Due times are monotonic clock readings, so they are compared by their difference
+        long diff = first.dueTime - second.dueTime;
+        if (diff != 0) {
+            return diff < 0 ? -1 : 1;
+        }
+        return Long.compare(first.sequence, second.sequence);
+    }
+
+    private static <K> void decrement(ConcurrentMap<K, Long> counters, K key) {
+        // Remove the counter once it reaches zero so that the maps only hold buckets with pending tasks
+        counters.computeIfPresent(key, (k, count) -> count <= 1L ? null : count - 1L);
+    }
+
+    /**
+     * The statistics recorded for a single task, kept on the task so that it can be accounted for on release.
+     */
+    static final class Entry {
+
+        private final long sequence;
+
+        private final long submittedAt;
+
+        private final long dueTime;
+
+        private final int redeliveryCount;
+
+        private final String destination;
+
+        private final int payloadSize;
+
+        Entry(long sequence, long submittedAt, long dueTime, int redeliveryCount, String destination, int payloadSize) {
+            this.sequence        = sequence;
+            this.submittedAt     = submittedAt;
+            this.dueTime         = dueTime;
+            this.redeliveryCount = redeliveryCount;
+            this.destination     = destination;
+            this.payloadSize     = payloadSize;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+    }
+
+}
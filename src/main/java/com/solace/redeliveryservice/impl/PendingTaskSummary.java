@@ -0,0 +1,53 @@
+package com.solace.redeliveryservice.impl;
+
+/**
+ * A read-only summary of a single task pending in the redelivery engine.
+ * @author TKTheTechie
+ */
+public class PendingTaskSummary {
+
+    private final long dueInMillis;
+
+    private final long ageInMillis;
+
+    private final int redeliveryCount;
+
+    private final String destination;
+
+    private final int payloadSize;
+
+    public PendingTaskSummary(long dueInMillis, long ageInMillis, int redeliveryCount, String destination, int payloadSize) {
+        this.dueInMillis     = dueInMillis;
+        this.ageInMillis     = ageInMillis;
+        this.redeliveryCount = redeliveryCount;
+        this.destination     = destination;
+        this.payloadSize     = payloadSize;
+    }
+
+    /**
+     * @return time until the task is released (in milliseconds), negative if it is overdue.
+     */
+    public long getDueInMillis() {
+        return dueInMillis;
+    }
+
+    /**
+     * @return time since the task was submitted (in milliseconds).
+     */
+    public long getAgeInMillis() {
+        return ageInMillis;
+    }
+
+    public int getRedeliveryCount() {
+        return redeliveryCount;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+}
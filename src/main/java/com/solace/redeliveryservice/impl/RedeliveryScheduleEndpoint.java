@@ -0,0 +1,25 @@
+package com.solace.redeliveryservice.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-only actuator endpoint over the redelivery engine's pending schedule. It is exposed as an MBean when JMX is
+ * enabled, and over HTTP at <code>/actuator/redeliveryschedule</code> when a web server is present.
+ * @author TKTheTechie
+ */
+@Component
+@Endpoint(id = "redeliveryschedule")
+public class RedeliveryScheduleEndpoint {
+
+    @Autowired
+    private SolaceQueueMessageRedeliveryEngine redeliveryEngine;
+
+    @ReadOperation
+    public PendingRedeliverySnapshot schedule() {
+        return redeliveryEngine.getPendingSnapshot();
+    }
+
+}
@@ -4,6 +4,8 @@ import com.solace.messaging.publisher.OutboundMessage;
 import com.solace.messaging.receiver.InboundMessage;
 import com.solace.messaging.resources.Topic;
 import com.solace.redeliveryservice.api.IRedeliveryEngine;
+import com.solace.redeliveryservice.api.RedeliveryBackoff;
+import com.solace.redeliveryservice.api.RedeliveryClock;
 import com.solace.redeliveryservice.api.SolaceMessagingService;
 import com.solace.redeliveryservice.api.Queue;
 
@@ -31,6 +33,9 @@ public class SolaceDMQueueConsumer {
     @Autowired
     private IRedeliveryEngine redeliveryEngine;
 
+    @Autowired
+    private RedeliveryClock clock = SystemRedeliveryClock.INSTANCE;
+
     @Value("${solace.redelivery.delayInMs}")
     private long REDELIVERY_DELAY;
 
@@ -98,7 +103,11 @@ public class SolaceDMQueueConsumer {
                 log.info("Submitting a message to the redelivery engine with {} ms delay...", String.format("%,d", nextDelay));
             }
 
-            DelayedSolaceMessage delayedSolaceMessage = new DelayedSolaceMessage(inboundMessage, nextDelay);
+            // The Solace API has no payload length accessor, so the pending bytes statistic costs one payload copy here
+            byte[] payload = inboundMessage.getPayloadAsBytes();
+            int payloadSize = (payload == null) ? 0 : payload.length;
+
+            DelayedSolaceMessage delayedSolaceMessage = new DelayedSolaceMessage(inboundMessage, nextDelay, redelivery_count, payloadSize, clock);
             redeliveryEngine.submitTask(delayedSolaceMessage);
         } else {
             // If the calculated delay time exceeds the max allowed redelivery, then send to the error queue (if it exists),
@@ -134,7 +143,7 @@ public class SolaceDMQueueConsumer {
      * @return next delay (in milliseconds).
      */
     long getNextDelay(int redelivery_count) {
-        return REDELIVERY_DELAY * ((long) Math.pow(EXPONENTIAL_BACK_OFF_FACTOR, redelivery_count));
+        return RedeliveryBackoff.calculateDelay(REDELIVERY_DELAY, EXPONENTIAL_BACK_OFF_FACTOR, redelivery_count);
     }
     
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.solace.redeliveryservice.impl;
 
 import com.solace.messaging.publisher.OutboundMessage;
+import com.solace.messaging.publisher.PersistentMessagePublisher;
 import com.solace.messaging.receiver.InboundMessage;
 import com.solace.messaging.resources.Topic;
 import com.solace.redeliveryservice.api.IRedeliveryEngine;
+import com.solace.redeliveryservice.api.RedeliveryClock;
 import com.solace.redeliveryservice.api.SolaceMessagingService;
 import com.solace.redeliveryservice.api.Queue;
 
@@ -14,10 +16,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 /**
@@ -38,29 +45,56 @@ public class SolaceQueueMessageRedeliveryEngine implements IRedeliveryEngine<Del
     @Value("${solace.redelivery.source.queue.name}")
     private String SOURCE_SOLACE_QUEUE_NAME;
 
+    @Value("${solace.redelivery.introspection.bucket.widthInMs:1000}")
+    private long INTROSPECTION_BUCKET_WIDTH;
+
+    @Value("${solace.redelivery.introspection.sample.size:0}")
+    private int INTROSPECTION_SAMPLE_SIZE;
+
+    @Value("${solace.redelivery.release.granularityInMs:0}")
+    private long RELEASE_GRANULARITY;
+
     private Topic SOURCE_SOLACE_QUEUE;
 
     private DelayQueue<DelayedSolaceMessage> delayQueue = new DelayQueue<DelayedSolaceMessage>();
 
+    private PendingRedeliveryStatistics pendingStatistics;
+
     @Autowired
     private SolaceMessagingService solaceMessagingService;
 
+    @Autowired
+    private RedeliveryClock clock = SystemRedeliveryClock.INSTANCE;
+
     /**
      * Instantiates the publisher and starts the DelayQueue Stream Processor.
      */
     @PostConstruct
     public void init() {
+        if (INTROSPECTION_BUCKET_WIDTH <= 0) {
+            throw new IllegalArgumentException("solace.redelivery.introspection.bucket.widthInMs must be greater than 0");
+        }
 
         // Using the Queue's Topic here
         SOURCE_SOLACE_QUEUE = Queue.of(SOURCE_SOLACE_QUEUE_NAME);
+        pendingStatistics   = new PendingRedeliveryStatistics(clock, INTROSPECTION_BUCKET_WIDTH, INTROSPECTION_SAMPLE_SIZE);
         ExecutorService executorService = Executors.newSingleThreadExecutor();
 
+        // With a release granularity, messages due in the same bucket are released together through the bulk publish path
+        if (RELEASE_GRANULARITY > 0) {
+            solaceMessagingService.getPublisher().setMessagePublishReceiptListener(this::onPublishReceipt);
+            executorService.submit(this::releaseBatches);
+            return;
+        }
+
         executorService.submit(() -> {
             // Code below will start an infinite Java Stream that is constantly iterating over the DelayQueue
             // that releases expired messages in parallel to increase throughput
             Stream.generate(() -> {
                 try {
-                    return delayQueue.take();
+                    DelayedSolaceMessage task = delayQueue.take();
+                    pendingStatistics.release(task);
+                    return task;
                 } catch (InterruptedException e) {
                     if (log.isErrorEnabled()) {
                         log.error("Unable to process delayQueue", e);
@@ -92,6 +126,10 @@ public class SolaceQueueMessageRedeliveryEngine implements IRedeliveryEngine<Del
      */
     @Override
     public void submitTask(DelayedSolaceMessage task) {
+        if (RELEASE_GRANULARITY > 0) {
+            pendingStatistics.recordCoalescing(task.coalesce(RELEASE_GRANULARITY));
+        }
+        pendingStatistics.record(task, SOURCE_SOLACE_QUEUE_NAME);
         delayQueue.add(task);
     }
 
@@ -105,6 +143,125 @@ public class SolaceQueueMessageRedeliveryEngine implements IRedeliveryEngine<Del
         return delayQueue.size() < QUEUE_CAPACITY;
     }
 
+    /**
+     * Returns a view of the tasks pending in the engine. This is built from counters maintained on submit and release,
+     * so it does not touch the DelayQueue.
+     *
+     * @return snapshot of the pending tasks.
+     */
+    public PendingRedeliverySnapshot getPendingSnapshot() {
+        return pendingStatistics.snapshot();
+    }
+
+    /**
+     * Waits for the next release bucket to expire and releases every expired message in one batch, so that the engine
+     * only wakes up once per bucket. Like the per-message stream, an interruption is logged and the loop carries on,
+     * so that pending messages are never left in the DelayQueue.
+     */
+    private void releaseBatches() {
+        while (true) {
+            List<DelayedSolaceMessage> batch = new ArrayList<>();
+            try {
+                batch.add(delayQueue.take());
+            } catch (InterruptedException e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Unable to process delayQueue", e);
+                }
+                continue;
+            }
+
+            delayQueue.drainTo(batch);
+            batch.forEach(pendingStatistics::release);
+            pendingStatistics.recordReleaseBatch(batch.size());
+
+            try {
+                executeTasks(batch);
+            } catch (Exception ex) {
+                if (log.isErrorEnabled()) {
+                    log.error("FATAL ERROR PROCESSING A BATCH OF TASKS:", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a batch of expired messages back to the source queue without waiting for each acknowledgement in turn.
+     * Each inbound message is acked once a successful publish receipt arrives. As in
+     * {@link #executeTask(DelayedSolaceMessage)}, a message whose redelivery fails or times out is logged and left unacked,
+     * so it is not lost.
+     * @param tasks - the expired tasks.
+     */
+    public void executeTasks(List<DelayedSolaceMessage> tasks) {
+        CountDownLatch pendingReceipts = new CountDownLatch(tasks.size());
+        List<BulkRelease> releases = new ArrayList<>(tasks.size());
+
+        for (DelayedSolaceMessage task : tasks) {
+            BulkRelease release = new BulkRelease(task.getMessage(), pendingReceipts);
+            releases.add(release);
+            try {
+                OutboundMessage message = buildRedeliveryMessage(release.inboundMessage);
+                this.solaceMessagingService.getPublisher().publish(message, SOURCE_SOLACE_QUEUE, release);
+            } catch (Exception ex) {
+                if (log.isErrorEnabled()) {
+                    log.error("Unable to publish back to the source {} : {}", SOURCE_SOLACE_QUEUE, ex);
+                }
+                settle(release, false);
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Redelivering a batch of {} messages...", tasks.size());
+        }
+
+        try {
+            if (!pendingReceipts.await(20000L, TimeUnit.MILLISECONDS)) {
+                if (log.isErrorEnabled()) {
+                    log.error("Timed out waiting for {} publish receipts from the source {}", pendingReceipts.getCount(), SOURCE_SOLACE_QUEUE);
+                }
+            }
+        } catch (InterruptedException e) {
+            if (log.isErrorEnabled()) {
+                log.error("Interrupted while waiting for publish receipts from the source {} : {}", SOURCE_SOLACE_QUEUE, e);
+            }
+        }
+    }
+
+    /**
+     * Acks the inbound message of a bulk release once the broker has accepted its redelivery. A failed redelivery is
+     * logged and left unacked. A receipt arriving after the batch timed out is still honoured.
+     * @param publishReceipt - the publish receipt.
+     */
+    void onPublishReceipt(PersistentMessagePublisher.PublishReceipt publishReceipt) {
+        if (!(publishReceipt.getUserContext() instanceof BulkRelease)) {
+            return;
+        }
+
+        if (publishReceipt.getException() != null) {
+            if (log.isErrorEnabled()) {
+                log.error("Unable to publish back to the source {} : {}", SOURCE_SOLACE_QUEUE, publishReceipt.getException());
+            }
+            settle((BulkRelease) publishReceipt.getUserContext(), false);
+            return;
+        }
+        settle((BulkRelease) publishReceipt.getUserContext(), true);
+    }
+
+    /**
+     * Settles a bulk release once, acking its inbound message only if it was redelivered. Any later receipt for the
+     * same release is ignored.
+     */
+    private void settle(BulkRelease release, boolean redelivered) {
+        if (release.settled.compareAndSet(false, true)) {
+            try {
+                if (redelivered) {
+                    this.solaceMessagingService.getDmqReceiver().ack(release.inboundMessage);
+                }
+            } finally {
+                release.pendingReceipts.countDown();
+            }
+        }
+    }
+
     /**
      * Gets the expired message and sends it back to the source queue
      * @param task
@@ -112,6 +269,26 @@ public class SolaceQueueMessageRedeliveryEngine implements IRedeliveryEngine<Del
     public void executeTask(DelayedSolaceMessage task) {
         InboundMessage inboundMessage = task.getMessage();
 
+        try {
+            OutboundMessage message = buildRedeliveryMessage(inboundMessage);
+            if (log.isDebugEnabled()) {
+                log.debug("Redelivering a message...");
+            }
+            this.solaceMessagingService.getPublisher().publishAwaitAcknowledgement(message, SOURCE_SOLACE_QUEUE, 20000L);
+        } catch (InterruptedException e) {
+            if (log.isErrorEnabled()) {
+                log.error("Unable to publish back to the source {} : {}", SOURCE_SOLACE_QUEUE, e);
+            }
+        }
+
+        // Finally ack the inbound message
+        this.solaceMessagingService.getDmqReceiver().ack(inboundMessage);
+    }
+
+    /**
+     * Builds the message to send back to the source queue, with its redelivery header incremented.
+     */
+    private OutboundMessage buildRedeliveryMessage(InboundMessage inboundMessage) {
         Properties messageProperties = new Properties();
         messageProperties.putAll(inboundMessage.getProperties());
 
@@ -129,20 +306,25 @@ public class SolaceQueueMessageRedeliveryEngine implements IRedeliveryEngine<Del
         }
 
         messageProperties.setProperty(REDELIVERY_HEADER_NAME, String.valueOf(rxCount));
-        try {
-            OutboundMessage message = solaceMessagingService.getMessageBuilder().build(inboundMessage.getPayloadAsBytes(), messageProperties);
-            if (log.isDebugEnabled()) {
-                log.debug("Redelivering a message...");
-            }
-            this.solaceMessagingService.getPublisher().publishAwaitAcknowledgement(message, SOURCE_SOLACE_QUEUE, 20000L);
-        } catch (InterruptedException e) {
-            if (log.isErrorEnabled()) {
-                log.error("Unable to publish back to the source {} : {}", SOURCE_SOLACE_QUEUE, e);
-            }
+        return solaceMessagingService.getMessageBuilder().build(inboundMessage.getPayloadAsBytes(), messageProperties);
+    }
+
+    /**
+     * The user context of a message published through the bulk publish path.
+     */
+    private static final class BulkRelease {
+
+        private final InboundMessage inboundMessage;
+
+        private final CountDownLatch pendingReceipts;
+
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        BulkRelease(InboundMessage inboundMessage, CountDownLatch pendingReceipts) {
+            this.inboundMessage  = inboundMessage;
+            this.pendingReceipts = pendingReceipts;
         }
 
-        // Finally ack the inbound message
-        this.solaceMessagingService.getDmqReceiver().ack(inboundMessage);
     }
 
 }
\ No newline at end of file
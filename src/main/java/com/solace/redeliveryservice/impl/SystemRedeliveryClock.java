@@ -0,0 +1,26 @@
+package com.solace.redeliveryservice.impl;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+import org.springframework.stereotype.Component;
+
+/**
+ * The default {@link RedeliveryClock} which is backed by the system clock.
+ * @author TKTheTechie
+ */
+@Component
+public class SystemRedeliveryClock implements RedeliveryClock {
+
+    // Shared instance for callers that are not managed by Spring
+    public static final SystemRedeliveryClock INSTANCE = new SystemRedeliveryClock();
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+}
@@ -0,0 +1,328 @@
+package com.solace.redeliveryservice.simulator;
+
+import com.solace.redeliveryservice.api.RedeliveryBackoff;
+import com.solace.redeliveryservice.impl.SolaceDMQueueConsumer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded DMQ arrival trace against a model of the redelivery engine on a {@link VirtualClock}.
+ * <p>
+ * The model mirrors the behaviour of {@link SolaceDMQueueConsumer} and the redelivery engine: every arrival is given
+ * the same exponential backoff delay and held in a {@link DelayQueue} of {@link com.solace.redeliveryservice.impl.DelayedSolaceMessage}s,
+ * which decide when they expire. When the queue is at capacity, the consumer waits in 1 second steps just like the
+ * real consumer. The engine releases expired messages from a parallel stream, so the model publishes through a fixed
+ * number of publisher slots (the common pool parallelism by default), each publish taking the configured latency.
+ * <p>
+ * With a release granularity, due times are rounded up into shared buckets just like the engine does, and each
+ * expired bucket is released as one batch by a single release thread, taking one publish latency per batch.
+ * <p>
+ * Usage: <code>RedeliverySimulator &lt;trace.csv&gt; [delayInMs] [maximumDelayInMs] [backOffFactor] [queueCapacity] [publishLatencyInMs] [publisherConcurrency] [releaseGranularityInMs]</code>
+ *
+ * @author TKTheTechie
+ */
+public class RedeliverySimulator {
+
+    // Mirrors the time the consumer sleeps when the engine's queue is at capacity
+    private static final long CAPACITY_WAIT_IN_MILLIS = 1000L;
+
+    private long redeliveryDelay = 3000L;
+
+    private long maximumRedeliveryDelay = 10000L;
+
+    private long exponentialBackOffFactor = 2L;
+
+    private int queueCapacity = 1000;
+
+    private long publishLatency = 0L;
+
+    private int publisherConcurrency = ForkJoinPool.getCommonPoolParallelism();
+
+    private long releaseGranularity = 0L;
+
+    private long sampleInterval = 1000L;
+
+    private long burstWindow = 1000L;
+
+    private long perMessageOverhead = 256L;
+
+    /**
+     * Replay the given trace and report on how the engine would have behaved.
+     * @param trace - the recorded arrivals.
+     * @return the simulation report.
+     */
+    public SimulationReport run(List<TraceRecord> trace) {
+        SimulationReport report = new SimulationReport(sampleInterval, burstWindow);
+        if (trace.isEmpty()) {
+            return report;
+        }
+
+        List<TraceRecord> arrivals = new ArrayList<>(trace);
+        arrivals.sort(Comparator.comparingLong(TraceRecord::getArrivalTime));
+
+        Simulation simulation = new Simulation(arrivals.get(0).getArrivalTime(), report);
+        for (TraceRecord record : arrivals) {
+            simulation.arrive(record);
+        }
+        simulation.drain();
+
+        return report;
+    }
+
+    /**
+     * The state of a single replay.
+     */
+    private class Simulation {
+
+        private final long startTime;
+
+        private final VirtualClock clock;
+
+        private final SimulationReport report;
+
+        private final DelayQueue<SimulatedDelayedMessage> delayQueue = new DelayQueue<>();
+
+        // The time at which each publisher slot is free to publish the next release
+        private final PriorityQueue<Long> publishersAvailableAt = new PriorityQueue<>();
+
+        private long consumerAvailableAt;
+
+        private long nextSampleAt;
+
+        private long memoryInUse;
+
+        Simulation(long startTime, SimulationReport report) {
+            this.startTime           = startTime;
+            this.clock               = new VirtualClock(startTime);
+            this.report              = report;
+            this.consumerAvailableAt = startTime;
+            this.nextSampleAt        = startTime;
+
+            // The bulk release path releases each batch from a single thread
+            int publishers = (releaseGranularity > 0) ? 1 : Math.max(publisherConcurrency, 1);
+            for (int i = 0; i < publishers; i++) {
+                publishersAvailableAt.add(startTime);
+            }
+        }
+
+        void arrive(TraceRecord record) {
+            report.recordArrival();
+
+            // The consumer processes one message at a time, so a message arriving while the consumer is still
+            // waiting for capacity is only picked up afterwards
+            long now = Math.max(record.getArrivalTime(), consumerAvailableAt);
+            advanceTo(now);
+
+            while (delayQueue.size() >= queueCapacity) {
+                report.recordCapacityWait();
+                now += CAPACITY_WAIT_IN_MILLIS;
+                advanceTo(now);
+            }
+            consumerAvailableAt = now;
+
+            long nextDelay = RedeliveryBackoff.calculateDelay(redeliveryDelay, exponentialBackOffFactor, record.getRedeliveryCount());
+            if (nextDelay <= maximumRedeliveryDelay) {
+                SimulatedDelayedMessage message = new SimulatedDelayedMessage(record, nextDelay, releaseGranularity, clock);
+                if (releaseGranularity > 0) {
+                    report.recordCoalescing(message.getCoalescingDelay());
+                }
+                delayQueue.add(message);
+                memoryInUse += record.getPayloadSize() + perMessageOverhead;
+                report.recordQueueDepth(delayQueue.size());
+                report.recordMemory(memoryInUse);
+            } else {
+                report.recordExceededThreshold();
+            }
+        }
+
+        void drain() {
+            while (!delayQueue.isEmpty()) {
+                advanceTo(Math.max(clock.currentTimeMillis(), nextReleaseTime(delayQueue.peek())));
+            }
+            sampleUntil(clock.currentTimeMillis());
+            report.setSimulatedDuration(clock.currentTimeMillis() - startTime);
+        }
+
+        /**
+         * Move the clock to the given time, releasing every message that expires on the way.
+         */
+        private void advanceTo(long time) {
+            SimulatedDelayedMessage head;
+            while ((head = delayQueue.peek()) != null) {
+                long releaseTime = nextReleaseTime(head);
+                if (releaseTime > time) {
+                    break;
+                }
+
+                sampleUntil(releaseTime);
+                clock.advanceTo(Math.max(clock.currentTimeMillis(), releaseTime));
+
+                release(Objects.requireNonNull(delayQueue.poll(), "Expected an expired message"));
+
+                // The bulk release path drains every other expired message into the same batch
+                if (releaseGranularity > 0) {
+                    int batchSize = 1;
+                    SimulatedDelayedMessage expired;
+                    while ((expired = delayQueue.poll()) != null) {
+                        release(expired);
+                        batchSize++;
+                    }
+                    report.recordReleaseBatch(batchSize);
+                }
+
+                publishersAvailableAt.poll();
+                publishersAvailableAt.add(clock.currentTimeMillis() + publishLatency);
+            }
+
+            sampleUntil(time);
+            clock.advanceTo(Math.max(clock.currentTimeMillis(), time));
+        }
+
+        private void release(SimulatedDelayedMessage released) {
+            long lateness = -released.getDelay(TimeUnit.MILLISECONDS);
+            memoryInUse -= released.getRecord().getPayloadSize() + perMessageOverhead;
+            report.recordRelease(clock.currentTimeMillis() - startTime, lateness);
+        }
+
+        /**
+         * The time at which the given message will be released: once it has expired and a publisher slot is free.
+         */
+        private long nextReleaseTime(SimulatedDelayedMessage message) {
+            long dueTime = clock.currentTimeMillis() + message.getDelay(TimeUnit.MILLISECONDS);
+            return Math.max(dueTime, publishersAvailableAt.peek());
+        }
+
+        /**
+         * Record the queue depth for every sample point strictly before the given time.
+         */
+        private void sampleUntil(long time) {
+            while (nextSampleAt < time) {
+                report.recordQueueDepthSample(delayQueue.size());
+                nextSampleAt += sampleInterval;
+            }
+        }
+
+    }
+
+    public void setRedeliveryDelay(long redeliveryDelayInMillis) {
+        this.redeliveryDelay = redeliveryDelayInMillis;
+    }
+
+    public void setMaximumRedeliveryDelay(long maximumRedeliveryDelayInMillis) {
+        this.maximumRedeliveryDelay = maximumRedeliveryDelayInMillis;
+    }
+
+    public void setExponentialBackOffFactor(long exponentialBackOffFactor) {
+        this.exponentialBackOffFactor = exponentialBackOffFactor;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Set how many releases can be published at the same time, which mirrors the parallelism of the engine's
+     * release stream.
+     * @param publisherConcurrency - number of concurrent publishes.
+     */
+    public void setPublisherConcurrency(int publisherConcurrency) {
+        this.publisherConcurrency = publisherConcurrency;
+    }
+
+    /**
+     * Set the release granularity that due times are rounded up to, which releases each bucket as one batch.
+     * @param releaseGranularityInMillis - release granularity (in milliseconds), 0 to release each message on its own.
+     */
+    public void setReleaseGranularity(long releaseGranularityInMillis) {
+        this.releaseGranularity = releaseGranularityInMillis;
+    }
+
+    /**
+     * Set how long each release takes to be published and acknowledged by the broker.
+     * @param publishLatencyInMillis - publish latency (in milliseconds).
+     */
+    public void setPublishLatency(long publishLatencyInMillis) {
+        this.publishLatency = publishLatencyInMillis;
+    }
+
+    public void setSampleInterval(long sampleIntervalInMillis) {
+        this.sampleInterval = sampleIntervalInMillis;
+    }
+
+    public void setBurstWindow(long burstWindowInMillis) {
+        this.burstWindow = burstWindowInMillis;
+    }
+
+    /**
+     * Set the estimated memory each queued message costs on top of its payload.
+     * @param perMessageOverheadInBytes - overhead (in bytes).
+     */
+    public void setPerMessageOverhead(long perMessageOverheadInBytes) {
+        this.perMessageOverhead = perMessageOverheadInBytes;
+    }
+
+    /**
+     * Read a trace file.
+     * @param path - path to a trace CSV file.
+     * @return the recorded arrivals.
+     * @throws IOException if the file cannot be read.
+     * @see TraceRecord
+     */
+    public static List<TraceRecord> readTrace(Path path) throws IOException {
+        List<TraceRecord> trace = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            TraceRecord record = TraceRecord.parse(line);
+            if (record != null) {
+                trace.add(record);
+            }
+        }
+        return trace;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: RedeliverySimulator <trace.csv> [delayInMs] [maximumDelayInMs] [backOffFactor] [queueCapacity] [publishLatencyInMs] [publisherConcurrency] [releaseGranularityInMs]");
+            System.exit(1);
+        }
+
+        RedeliverySimulator simulator = new RedeliverySimulator();
+        if (args.length > 1) {
+            simulator.setRedeliveryDelay(Long.parseLong(args[1]));
+        }
+        if (args.length > 2) {
+            simulator.setMaximumRedeliveryDelay(Long.parseLong(args[2]));
+        }
+        if (args.length > 3) {
+            simulator.setExponentialBackOffFactor(Long.parseLong(args[3]));
+        }
+        if (args.length > 4) {
+            simulator.setQueueCapacity(Integer.parseInt(args[4]));
+        }
+        if (args.length > 5) {
+            simulator.setPublishLatency(Long.parseLong(args[5]));
+        }
+        if (args.length > 6) {
+            simulator.setPublisherConcurrency(Integer.parseInt(args[6]));
+        }
+        if (args.length > 7) {
+            simulator.setReleaseGranularity(Long.parseLong(args[7]));
+        }
+
+        long started = System.nanoTime();
+        SimulationReport report = simulator.run(readTrace(Paths.get(args[0])));
+        System.out.println(report);
+        System.out.printf("Replayed in %,d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+}
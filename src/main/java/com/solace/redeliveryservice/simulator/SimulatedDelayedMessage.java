@@ -0,0 +1,41 @@
+package com.solace.redeliveryservice.simulator;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+import com.solace.redeliveryservice.impl.DelayedSolaceMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link DelayedSolaceMessage} that carries the trace record it was created from instead of a real Solace message.
+ * @author TKTheTechie
+ */
+class SimulatedDelayedMessage extends DelayedSolaceMessage {
+
+    private final TraceRecord record;
+
+    private final long coalescingDelay;
+
+    /**
+     * @param record - the trace record this message was created from.
+     * @param delayInMillis - delay before the message is released (in milliseconds).
+     * @param releaseGranularityInMillis - release granularity (in milliseconds), 0 to release at the exact delay.
+     * @param clock - the simulation clock.
+     */
+    SimulatedDelayedMessage(TraceRecord record, long delayInMillis, long releaseGranularityInMillis, RedeliveryClock clock) {
+        super(null, delayInMillis, record.getRedeliveryCount(), record.getPayloadSize(), clock);
+        this.record          = record;
+        this.coalescingDelay = (releaseGranularityInMillis > 0) ? TimeUnit.NANOSECONDS.toMillis(coalesce(releaseGranularityInMillis)) : 0L;
+    }
+
+    TraceRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * @return the delay added by rounding the release time up to the release granularity (in milliseconds).
+     */
+    long getCoalescingDelay() {
+        return coalescingDelay;
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.solace.redeliveryservice.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The outcome of replaying a trace through the {@link RedeliverySimulator}.
+ * @author TKTheTechie
+ */
+public class SimulationReport {
+
+    private final long sampleInterval;
+
+    private final long burstWindow;
+
+    private final List<Integer> queueDepthSamples = new ArrayList<>();
+
+    private final NavigableMap<Long, Integer> releasesPerWindow = new TreeMap<>();
+
+    private long messagesReceived;
+
+    private long messagesRedelivered;
+
+    private long messagesExceedingThreshold;
+
+    private long capacityWaits;
+
+    private int peakQueueDepth;
+
+    private long peakMemoryBytes;
+
+    private long totalLateness;
+
+    private long maximumLateness;
+
+    private long simulatedDuration;
+
+    private long coalescedMessages;
+
+    private long totalCoalescingDelay;
+
+    private long maximumCoalescingDelay;
+
+    private long releaseBatches;
+
+    private long batchedMessages;
+
+    SimulationReport(long sampleIntervalInMillis, long burstWindowInMillis) {
+        this.sampleInterval = sampleIntervalInMillis;
+        this.burstWindow    = burstWindowInMillis;
+    }
+
+    void recordArrival() {
+        messagesReceived++;
+    }
+
+    void recordExceededThreshold() {
+        messagesExceedingThreshold++;
+    }
+
+    void recordCapacityWait() {
+        capacityWaits++;
+    }
+
+    void recordQueueDepthSample(int depth) {
+        queueDepthSamples.add(depth);
+    }
+
+    void recordQueueDepth(int depth) {
+        peakQueueDepth = Math.max(peakQueueDepth, depth);
+    }
+
+    void recordMemory(long bytes) {
+        peakMemoryBytes = Math.max(peakMemoryBytes, bytes);
+    }
+
+    void recordRelease(long offsetInMillis, long latenessInMillis) {
+        messagesRedelivered++;
+        totalLateness  += latenessInMillis;
+        maximumLateness = Math.max(maximumLateness, latenessInMillis);
+        releasesPerWindow.merge(offsetInMillis - (offsetInMillis % burstWindow), 1, Integer::sum);
+    }
+
+    void recordCoalescing(long addedDelayInMillis) {
+        coalescedMessages++;
+        totalCoalescingDelay  += addedDelayInMillis;
+        maximumCoalescingDelay = Math.max(maximumCoalescingDelay, addedDelayInMillis);
+    }
+
+    void recordReleaseBatch(int batchSize) {
+        releaseBatches++;
+        batchedMessages += batchSize;
+    }
+
+    void setSimulatedDuration(long durationInMillis) {
+        this.simulatedDuration = durationInMillis;
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived;
+    }
+
+    public long getMessagesRedelivered() {
+        return messagesRedelivered;
+    }
+
+    public long getMessagesExceedingThreshold() {
+        return messagesExceedingThreshold;
+    }
+
+    /**
+     * Returns how many times the consumer had to wait because the engine's queue was at capacity.
+     * @return number of capacity waits.
+     */
+    public long getCapacityWaits() {
+        return capacityWaits;
+    }
+
+    /**
+     * Returns the queue depth sampled every {@link #getSampleInterval()} milliseconds from the first arrival.
+     * @return queue depth samples.
+     */
+    public List<Integer> getQueueDepthSamples() {
+        return Collections.unmodifiableList(queueDepthSamples);
+    }
+
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Returns the number of releases in each burst window, keyed by the window's offset from the first arrival.
+     * @return releases per burst window.
+     */
+    public NavigableMap<Long, Integer> getReleasesPerWindow() {
+        return Collections.unmodifiableNavigableMap(releasesPerWindow);
+    }
+
+    public long getBurstWindow() {
+        return burstWindow;
+    }
+
+    public int getPeakReleaseBurst() {
+        return releasesPerWindow.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    /**
+     * Returns the estimated peak memory held by the engine's queue (payloads plus per-message overhead).
+     * @return peak memory (in bytes).
+     */
+    public long getPeakMemoryBytes() {
+        return peakMemoryBytes;
+    }
+
+    public long getMaximumLateness() {
+        return maximumLateness;
+    }
+
+    public double getAverageLateness() {
+        return messagesRedelivered == 0 ? 0d : (double) totalLateness / messagesRedelivered;
+    }
+
+    public long getSimulatedDuration() {
+        return simulatedDuration;
+    }
+
+    /**
+     * Returns the average delay added by rounding due times up to the release granularity.
+     * @return average coalescing delay (in milliseconds).
+     */
+    public double getAverageCoalescingDelay() {
+        return coalescedMessages == 0 ? 0d : (double) totalCoalescingDelay / coalescedMessages;
+    }
+
+    public long getMaximumCoalescingDelay() {
+        return maximumCoalescingDelay;
+    }
+
+    /**
+     * Returns how many batches were released through the bulk release path.
+     * @return number of release batches.
+     */
+    public long getReleaseBatches() {
+        return releaseBatches;
+    }
+
+    public double getAverageReleaseBatchSize() {
+        return releaseBatches == 0 ? 0d : (double) batchedMessages / releaseBatches;
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("Simulated %,d ms of traffic%n" +
+                        "  messages received:            %,d%n" +
+                        "  messages redelivered:         %,d%n" +
+                        "  messages exceeding threshold: %,d%n" +
+                        "  consumer capacity waits:      %,d%n" +
+                        "  peak queue depth:             %,d%n" +
+                        "  peak release burst:           %,d per %,d ms%n" +
+                        "  lateness (avg / max):         %,.1f / %,d ms%n" +
+                        "  peak memory (estimated):      %,d bytes",
+                simulatedDuration, messagesReceived, messagesRedelivered, messagesExceedingThreshold, capacityWaits,
+                peakQueueDepth, getPeakReleaseBurst(), burstWindow, getAverageLateness(), maximumLateness, peakMemoryBytes);
+
+        if (releaseBatches == 0) {
+            return summary;
+        }
+
+        return summary + String.format("%n" +
+                        "  coalescing delay (avg / max): %,.1f / %,d ms%n" +
+                        "  release batches (count / avg size): %,d / %,.1f",
+                getAverageCoalescingDelay(), maximumCoalescingDelay, releaseBatches, getAverageReleaseBatchSize());
+    }
+
+}
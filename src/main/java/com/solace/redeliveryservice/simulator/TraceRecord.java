@@ -0,0 +1,55 @@
+package com.solace.redeliveryservice.simulator;
+
+/**
+ * A single message arrival on the DMQ, as recorded in a trace.
+ * <p>
+ * Traces are CSV files with one arrival per line: <code>arrivalTimeMillis,payloadSizeBytes,redeliveryCount</code>.
+ * Empty lines and lines starting with <code>#</code> are ignored.
+ * @author TKTheTechie
+ */
+public class TraceRecord {
+
+    private final long arrivalTime;
+
+    private final int payloadSize;
+
+    private final int redeliveryCount;
+
+    public TraceRecord(long arrivalTimeInMillis, int payloadSize, int redeliveryCount) {
+        this.arrivalTime     = arrivalTimeInMillis;
+        this.payloadSize     = payloadSize;
+        this.redeliveryCount = redeliveryCount;
+    }
+
+    /**
+     * Parse a single line of a trace file.
+     * @param line - a line in the format <code>arrivalTimeMillis,payloadSizeBytes,redeliveryCount</code>.
+     * @return the parsed record, or <code>null</code> if the line is empty or a comment.
+     */
+    public static TraceRecord parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+
+        String[] fields = trimmed.split(",");
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Invalid trace record: " + line);
+        }
+
+        return new TraceRecord(Long.parseLong(fields[0].trim()), Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim()));
+    }
+
+    public long getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    public int getRedeliveryCount() {
+        return redeliveryCount;
+    }
+
+}
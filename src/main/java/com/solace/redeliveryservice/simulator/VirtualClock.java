@@ -0,0 +1,41 @@
+package com.solace.redeliveryservice.simulator;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RedeliveryClock} that only moves when it is told to. Used by the {@link RedeliverySimulator} to replay
+ * hours of recorded traffic without waiting for it in real time.
+ * @author TKTheTechie
+ */
+public class VirtualClock implements RedeliveryClock {
+
+    private long currentTime;
+
+    public VirtualClock(long startTimeInMillis) {
+        this.currentTime = startTimeInMillis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTime;
+    }
+
+    @Override
+    public long nanoTime() {
+        return TimeUnit.MILLISECONDS.toNanos(currentTime);
+    }
+
+    /**
+     * Move the clock forward to the given time. The clock never goes backwards.
+     * @param timeInMillis - the time to advance to (in milliseconds).
+     */
+    public void advanceTo(long timeInMillis) {
+        if (timeInMillis < currentTime) {
+            throw new IllegalArgumentException("Cannot move the virtual clock backwards from " + currentTime + " to " + timeInMillis);
+        }
+        this.currentTime = timeInMillis;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.solace.redeliveryservice.impl;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoarseRedeliveryClockTest {
+
+    CoarseRedeliveryClock clock;
+
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(SystemRedeliveryClock.class, CoarseRedeliveryClock.class);
+
+    @BeforeEach
+    void setup() {
+        clock = new CoarseRedeliveryClock();
+    }
+
+    @AfterEach
+    void shutdown() {
+        clock.shutdown();
+    }
+
+    @DisplayName("The cached time is read ahead by one resolution")
+    @Test
+    void testReadAhead() {
+        // A resolution long enough that the ticker does not refresh the cached time during the test
+        ReflectionTestUtils.setField(clock, "RESOLUTION", 60000L);
+        long beforeInit = System.nanoTime();
+        clock.init();
+
+        long coarseNanoTime = clock.coarseNanoTime();
+        assertTrue(coarseNanoTime - beforeInit >= TimeUnit.SECONDS.toNanos(60L), "The cached time must be refreshed in init()");
+        assertTrue(coarseNanoTime - System.nanoTime() > 0L, "A fresh cached time must not be behind the precise time");
+
+        ReflectionTestUtils.setField(clock, "cachedNanoTime", 5000L);
+        assertEquals(5000L + TimeUnit.SECONDS.toNanos(60L), clock.coarseNanoTime());
+    }
+
+    @DisplayName("A resolution of 0 disables the cached time")
+    @Test
+    void testDisabled() {
+        ReflectionTestUtils.setField(clock, "RESOLUTION", 0L);
+        clock.init();
+
+        long before = System.nanoTime();
+        long coarseNanoTime = clock.coarseNanoTime();
+        assertTrue(coarseNanoTime - before >= 0L && System.nanoTime() - coarseNanoTime >= 0L);
+        assertNull(ReflectionTestUtils.getField(clock, "ticker"));
+    }
+
+    @DisplayName("The coarse clock is the primary clock when its resolution is set")
+    @Test
+    void testPrimarySelection() {
+        contextRunner.withPropertyValues("solace.redelivery.clock.coarse.resolutionInMs=10")
+                .run(context -> assertTrue(context.getBean(RedeliveryClock.class) instanceof CoarseRedeliveryClock));
+    }
+
+    @DisplayName("The system clock is used when the coarse clock resolution is not set")
+    @Test
+    void testDefaultSelection() {
+        contextRunner.run(context -> assertTrue(context.getBean(RedeliveryClock.class) instanceof SystemRedeliveryClock));
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.solace.redeliveryservice.impl;
+
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression benchmark for ordering a large DelayQueue of long and short delays. It is kept out of the unit test run
+ * (it is not a *Test class) since its timing depends on the machine. Run it after a test compile with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.solace.redeliveryservice.impl.DelayedSolaceMessageOrderingBenchmark [-Dexec.args="200000 5"]
+ * </pre>
+ * @author TKTheTechie
+ */
+public class DelayedSolaceMessageOrderingBenchmark {
+
+    private static final long ONE_DAY_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    public static void main(String[] args) {
+        int messageCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int iterations   = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        for (int i = 1; i <= iterations; i++) {
+            long started = System.nanoTime();
+            run(messageCount);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            System.out.printf("Iteration %d: ordered %,d messages through the DelayQueue in %,d ms%n", i, messageCount, elapsed);
+        }
+    }
+
+    /**
+     * Fills a DelayQueue with a fixed mix of delays, then releases every message and checks the release order.
+     */
+    static void run(int messageCount) {
+        Random random = new Random(42L);
+        DelayedSolaceMessageTest.ManualClock clock = new DelayedSolaceMessageTest.ManualClock(0L);
+        DelayQueue<DelayedSolaceMessage> delayQueue = new DelayQueue<>();
+
+        for (int i = 0; i < messageCount; i++) {
+            // Mix of short delays and delays of up to a year, which used to overflow the comparison
+            long delay = (i % 2 == 0) ? random.nextInt(60_000) : (long) (random.nextDouble() * 365 * ONE_DAY_IN_MILLIS);
+            delayQueue.add(new DelayedSolaceMessage(null, delay, clock));
+        }
+
+        clock.nanoTime = TimeUnit.DAYS.toNanos(366L);
+        long previousDelay = Long.MIN_VALUE;
+        int released = 0;
+        DelayedSolaceMessage message;
+        while ((message = delayQueue.poll()) != null) {
+            long delay = message.getDelay(TimeUnit.NANOSECONDS);
+            if (delay < previousDelay) {
+                throw new IllegalStateException("Messages must be released in order of their release time");
+            }
+            previousDelay = delay;
+            released++;
+        }
+
+        if (released != messageCount) {
+            throw new IllegalStateException("Released " + released + " of " + messageCount + " messages");
+        }
+    }
+
+}
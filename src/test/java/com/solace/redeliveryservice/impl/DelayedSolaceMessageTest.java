@@ -0,0 +1,166 @@
+package com.solace.redeliveryservice.impl;
+
+import com.solace.redeliveryservice.api.RedeliveryClock;
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DelayedSolaceMessageTest {
+
+    private static final long ONE_DAY_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * A clock whose monotonic time can be set to any value, including values close to overflow.
+     */
+    static class ManualClock implements RedeliveryClock {
+
+        long nanoTime;
+
+        ManualClock(long nanoTime) {
+            this.nanoTime = nanoTime;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanoTime);
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanoTime;
+        }
+
+    }
+
+    ManualClock clock;
+
+    @BeforeEach
+    void setup() {
+        clock = new ManualClock(0L);
+    }
+
+    @DisplayName("Messages due more than 24 days apart can be compared")
+    @Test
+    void testExtremeDelayOrdering() {
+        DelayedSolaceMessage soon    = new DelayedSolaceMessage(null, 1000L, clock);
+        DelayedSolaceMessage later   = new DelayedSolaceMessage(null, 30 * ONE_DAY_IN_MILLIS, clock);
+        DelayedSolaceMessage longest = new DelayedSolaceMessage(null, Long.MAX_VALUE, clock);
+
+        assertTrue(soon.compareTo(later) < 0);
+        assertTrue(later.compareTo(soon) > 0);
+        assertTrue(later.compareTo(longest) < 0);
+        assertTrue(longest.compareTo(soon) > 0);
+        assertEquals(0, longest.compareTo(longest));
+    }
+
+    @DisplayName("Extreme delays do not overflow into the past")
+    @Test
+    void testExtremeDelayDoesNotOverflow() {
+        clock.nanoTime = Long.MAX_VALUE - 1000L;
+
+        DelayedSolaceMessage longest = new DelayedSolaceMessage(null, Long.MAX_VALUE, clock);
+
+        assertTrue(longest.getDelay(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(longest.getDelay(TimeUnit.DAYS) > 365L * 100L);
+    }
+
+    @DisplayName("Ordering and delays stay correct when the monotonic time base wraps around")
+    @Test
+    void testTimeBaseOverflow() {
+        clock.nanoTime = Long.MAX_VALUE - TimeUnit.MILLISECONDS.toNanos(1L);
+
+        DelayedSolaceMessage beforeWrap = new DelayedSolaceMessage(null, 0L, clock);
+        DelayedSolaceMessage afterWrap  = new DelayedSolaceMessage(null, 2L, clock);
+
+        assertTrue(beforeWrap.compareTo(afterWrap) < 0);
+        assertTrue(afterWrap.compareTo(beforeWrap) > 0);
+        assertEquals(2L, afterWrap.getDelay(TimeUnit.MILLISECONDS));
+
+        clock.nanoTime += TimeUnit.MILLISECONDS.toNanos(3L);
+        assertEquals(-1L, afterWrap.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @DisplayName("Messages with the same release time are released in submission order")
+    @Test
+    void testSameReleaseTimeOrdering() {
+        DelayedSolaceMessage first  = new DelayedSolaceMessage(null, 1000L, clock);
+        DelayedSolaceMessage second = new DelayedSolaceMessage(null, 1000L, clock);
+
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(first) > 0);
+    }
+
+    @DisplayName("Delays follow the monotonic clock, not the wall clock")
+    @Test
+    void testMonotonicDelay() {
+        RedeliveryClock steppedWallClock = new ManualClock(0L) {
+            @Override
+            public long currentTimeMillis() {
+                return -ONE_DAY_IN_MILLIS;
+            }
+        };
+
+        DelayedSolaceMessage message = new DelayedSolaceMessage(null, 1000L, steppedWallClock);
+
+        assertEquals(1000L, message.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @DisplayName("Release times are rounded up to the release granularity")
+    @Test
+    void testCoalesce() {
+        clock.nanoTime = TimeUnit.MILLISECONDS.toNanos(10250L);
+
+        DelayedSolaceMessage message = new DelayedSolaceMessage(null, 500L, clock);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250L), message.coalesce(1000L));
+        assertEquals(750L, message.getDelay(TimeUnit.MILLISECONDS));
+        assertEquals(0L, message.coalesce(1000L));
+    }
+
+    @DisplayName("Equality is consistent with the ordering and survives coalescing")
+    @Test
+    void testEquality() {
+        DelayedSolaceMessage first  = new DelayedSolaceMessage(null, 500L, clock);
+        DelayedSolaceMessage second = new DelayedSolaceMessage(null, 500L, clock);
+        int hashCode = first.hashCode();
+
+        assertNotEquals(first, second);
+        assertNotEquals(0, first.compareTo(second));
+
+        first.coalesce(1000L);
+        assertEquals(hashCode, first.hashCode());
+        assertEquals(first, first);
+    }
+
+    @DisplayName("Large queue of long and short delays is released in order")
+    @Test
+    void testLargeQueueOrdering() {
+        final int messageCount = 20_000;
+        Random random = new Random(42L);
+        DelayQueue<DelayedSolaceMessage> delayQueue = new DelayQueue<>();
+
+        for (int i = 0; i < messageCount; i++) {
+            // Mix of short delays and delays of up to a year, which used to overflow the comparison
+            long delay = (i % 2 == 0) ? random.nextInt(60_000) : (long) (random.nextDouble() * 365 * ONE_DAY_IN_MILLIS);
+            delayQueue.add(new DelayedSolaceMessage(null, delay, clock));
+        }
+
+        clock.nanoTime = TimeUnit.DAYS.toNanos(366L);
+        long previousDelay = Long.MIN_VALUE;
+        int released = 0;
+        DelayedSolaceMessage message;
+        while ((message = delayQueue.poll()) != null) {
+            long delay = message.getDelay(TimeUnit.NANOSECONDS);
+            assertTrue(delay >= previousDelay, "Messages must be released in order of their release time");
+            previousDelay = delay;
+            released++;
+        }
+
+        assertEquals(messageCount, released);
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.solace.redeliveryservice.impl;
+
+import com.solace.messaging.receiver.InboundMessage;
+import com.solace.redeliveryservice.simulator.VirtualClock;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PendingRedeliveryStatisticsTest {
+
+    VirtualClock clock;
+
+    PendingRedeliveryStatistics statistics;
+
+    @BeforeEach
+    void setup() {
+        clock      = new VirtualClock(10000L);
+        statistics = new PendingRedeliveryStatistics(clock, 1000L, 2);
+    }
+
+    private DelayedSolaceMessage createTask(long delayInMillis, int payloadSize, int redeliveryCount) {
+        return new DelayedSolaceMessage(Mockito.mock(InboundMessage.class), delayInMillis, redeliveryCount, payloadSize, clock);
+    }
+
+    @DisplayName("Submitted tasks are counted in every histogram")
+    @Test
+    void testRecord() {
+        statistics.record(createTask(500L, 100, 0), "SOURCE_QUEUE");
+        statistics.record(createTask(2500L, 1000, 1), "SOURCE_QUEUE");
+        statistics.record(createTask(2700L, 1024, 1), "SOURCE_QUEUE");
+
+        PendingRedeliverySnapshot snapshot = statistics.snapshot();
+        assertEquals(3L, snapshot.getPendingTasks());
+        assertEquals(2124L, snapshot.getPendingBytes());
+        assertEquals(Arrays.asList(0L, 2000L), Arrays.asList(snapshot.getDueIn().keySet().toArray()));
+        assertEquals(2L, snapshot.getDueIn().get(2000L).longValue());
+        assertEquals(2L, snapshot.getRedeliveryCounts().get(1).longValue());
+        assertEquals(3L, snapshot.getDestinations().get("SOURCE_QUEUE").longValue());
+        assertEquals(1L, snapshot.getPayloadSizes().get(128).longValue());
+        assertEquals(2L, snapshot.getPayloadSizes().get(1024).longValue());
+    }
+
+    @DisplayName("A coalesced task is counted in the bucket of its stamped due time")
+    @Test
+    void testRecordCoalescedTask() {
+        // A clock that moves 250ms every time it is read
+        clock = new VirtualClock(10000L) {
+            @Override
+            public long nanoTime() {
+                long nanoTime = super.nanoTime();
+                advanceTo(currentTimeMillis() + 250L);
+                return nanoTime;
+            }
+        };
+        statistics = new PendingRedeliveryStatistics(clock, 1000L, 2);
+
+        DelayedSolaceMessage task = createTask(500L, 100, 0);
+        assertEquals(500000000L, task.coalesce(1000L));
+        statistics.record(task, "SOURCE_QUEUE");
+
+        assertEquals(Collections.singletonMap(1000L, 1L), statistics.snapshot().getDueIn());
+    }
+
+    @DisplayName("Released tasks are removed from every histogram")
+    @Test
+    void testRelease() {
+        DelayedSolaceMessage first  = createTask(500L, 100, 0);
+        DelayedSolaceMessage second = createTask(2500L, 1000, 1);
+        statistics.record(first, "SOURCE_QUEUE");
+        statistics.record(second, "SOURCE_QUEUE");
+
+        statistics.release(first);
+
+        PendingRedeliverySnapshot snapshot = statistics.snapshot();
+        assertEquals(1L, snapshot.getPendingTasks());
+        assertEquals(1000L, snapshot.getPendingBytes());
+        assertEquals(Collections.singletonMap(2000L, 1L), snapshot.getDueIn());
+        assertEquals(Collections.singletonMap(1, 1L), snapshot.getRedeliveryCounts());
+        assertEquals(Collections.singletonMap(1024, 1L), snapshot.getPayloadSizes());
+
+        statistics.release(second);
+        assertEquals(0L, statistics.snapshot().getPendingTasks());
+        assertTrue(statistics.snapshot().getDestinations().isEmpty());
+    }
+
+    @DisplayName("Overdue tasks are reported as due now")
+    @Test
+    void testOverdueTasks() {
+        statistics.record(createTask(500L, 100, 0), "SOURCE_QUEUE");
+        clock.advanceTo(15000L);
+
+        assertEquals(Collections.singletonMap(0L, 1L), statistics.snapshot().getDueIn());
+    }
+
+    @DisplayName("Sample returns the soonest and oldest tasks up to the sample size")
+    @Test
+    void testSample() {
+        statistics.record(createTask(3000L, 10, 0), "SOURCE_QUEUE");
+        statistics.record(createTask(1000L, 20, 0), "SOURCE_QUEUE");
+        statistics.record(createTask(2000L, 30, 0), "SOURCE_QUEUE");
+        clock.advanceTo(10500L);
+
+        PendingRedeliverySnapshot snapshot = statistics.snapshot();
+        assertEquals(2, snapshot.getSoonest().size());
+        assertEquals(500L, snapshot.getSoonest().get(0).getDueInMillis());
+        assertEquals(20, snapshot.getSoonest().get(0).getPayloadSize());
+        assertEquals(30, snapshot.getSoonest().get(1).getPayloadSize());
+        assertEquals(2, snapshot.getOldest().size());
+        assertEquals(10, snapshot.getOldest().get(0).getPayloadSize());
+        assertEquals(500L, snapshot.getOldest().get(0).getAgeInMillis());
+    }
+
+    @DisplayName("Sampling is disabled with a sample size of 0")
+    @Test
+    void testSampleDisabled() {
+        statistics = new PendingRedeliveryStatistics(clock, 1000L, 0);
+        statistics.record(createTask(1000L, 10, 0), "SOURCE_QUEUE");
+
+        assertTrue(statistics.snapshot().getSoonest().isEmpty());
+        assertTrue(statistics.snapshot().getOldest().isEmpty());
+    }
+
+    @DisplayName("Payload sizes are bucketed by the next power of 2")
+    @Test
+    void testPayloadSizeBuckets() {
+        assertEquals(1, PendingRedeliveryStatistics.payloadSizeBucketOf(0));
+        assertEquals(2, PendingRedeliveryStatistics.payloadSizeBucketOf(2));
+        assertEquals(4, PendingRedeliveryStatistics.payloadSizeBucketOf(3));
+        assertEquals(1024, PendingRedeliveryStatistics.payloadSizeBucketOf(1024));
+        assertEquals(2048, PendingRedeliveryStatistics.payloadSizeBucketOf(1025));
+    }
+
+}
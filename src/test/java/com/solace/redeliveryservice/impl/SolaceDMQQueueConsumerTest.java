@@ -81,6 +81,24 @@ public class SolaceDMQQueueConsumerTest {
         verify(messagePublisher, times(0)).publishAwaitAcknowledgement(any(OutboundMessage.class), any(Topic.class), anyLong());
     }
 
+    @DisplayName("Submitted task carries the redelivery count and payload size")
+    @Test
+    public void testSubmittedTaskStatistics() {
+        ReflectionTestUtils.setField(dmqQueueConsumer, "REDELIVERY_DELAY", 1000L);
+        ReflectionTestUtils.setField(dmqQueueConsumer, "EXPONENTIAL_BACK_OFF_FACTOR", 2L);
+        ReflectionTestUtils.setField(dmqQueueConsumer, "MAXIMUM_REDELIVERY_DELAY", 10000L);
+
+        InboundMessage message = Mockito.mock(InboundMessage.class);
+        when(message.getProperty(REDELIVERY_HEADER_NAME)).thenReturn("2");
+        when(message.getPayloadAsBytes()).thenReturn("HELLO WORLD".getBytes());
+        dmqQueueConsumer.processMessage(message);
+
+        ArgumentCaptor<DelayedSolaceMessage> task = ArgumentCaptor.forClass(DelayedSolaceMessage.class);
+        verify(redeliveryEngine, times(1)).submitTask(task.capture());
+        Assertions.assertEquals(2, task.getValue().getRedeliveryCount());
+        Assertions.assertEquals(11, task.getValue().getPayloadSize());
+    }
+
     @DisplayName("Expired Message Test with ERROR_QUEUE defined - should publish to the ERROR_QUEUE")
     @Test
     public void testExpiredMessageErrorQueue() throws InterruptedException {
@@ -1,23 +1,31 @@
 package com.solace.redeliveryservice.impl;
 
 import com.solace.messaging.MessagingService;
+import com.solace.messaging.PubSubPlusClientException;
 import com.solace.messaging.publisher.OutboundMessage;
 import com.solace.messaging.publisher.OutboundMessageBuilder;
 import com.solace.messaging.publisher.PersistentMessagePublisher;
 import com.solace.messaging.receiver.InboundMessage;
 import com.solace.messaging.receiver.PersistentMessageReceiver;
 import com.solace.messaging.resources.Topic;
+import com.solace.redeliveryservice.api.RedeliveryClock;
 import com.solace.redeliveryservice.api.SolaceMessagingService;
 import com.solace.redeliveryservice.api.Queue;
+import com.solace.redeliveryservice.simulator.VirtualClock;
 
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class SolaceQueueMessageRedeliveryEngineTest {
@@ -82,4 +90,138 @@ public class SolaceQueueMessageRedeliveryEngineTest {
         verify(messagePublisher, times(0)).publishAwaitAcknowledgement(any(OutboundMessage.class), any(Topic.class), anyLong());
     }
 
+    @DisplayName("Engine refuses to start with an introspection bucket width of 0")
+    @Test
+    void testInvalidIntrospectionBucketWidth() {
+        ReflectionTestUtils.setField(sqmrde, "INTROSPECTION_BUCKET_WIDTH", 0L);
+
+        assertThrows(IllegalArgumentException.class, () -> sqmrde.init());
+    }
+
+    @DisplayName("Release times are rounded up to the release granularity")
+    @Test
+    void testReleaseGranularity() {
+        VirtualClock clock = new VirtualClock(10250L);
+        ReflectionTestUtils.setField(sqmrde, "RELEASE_GRANULARITY", 1000L);
+        ReflectionTestUtils.setField(sqmrde, "pendingStatistics", new PendingRedeliveryStatistics(clock, 1000L, 0));
+
+        sqmrde.submitTask(new DelayedSolaceMessage(inboundMessage, 500L, clock));
+        sqmrde.submitTask(new DelayedSolaceMessage(inboundMessage, 700L, clock));
+
+        PendingRedeliverySnapshot snapshot = sqmrde.getPendingSnapshot();
+        assertEquals(Collections.singletonMap(1000L, 2L), snapshot.getDueIn());
+        assertEquals(2L, snapshot.getCoalescedTasks());
+        assertEquals(150d, snapshot.getAverageCoalescingDelay());
+        assertEquals(250L, snapshot.getMaximumCoalescingDelay());
+    }
+
+    @DisplayName("Coalesced messages are released in one batch through the publish receipt listener")
+    @Test
+    void testReleaseBatches() {
+        AtomicLong nanoTime = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(10250L));
+        RedeliveryClock clock = new RedeliveryClock() {
+            @Override
+            public long currentTimeMillis() {
+                return TimeUnit.NANOSECONDS.toMillis(nanoTime.get());
+            }
+
+            @Override
+            public long nanoTime() {
+                return nanoTime.get();
+            }
+        };
+        ReflectionTestUtils.setField(sqmrde, "clock", clock);
+        ReflectionTestUtils.setField(sqmrde, "INTROSPECTION_BUCKET_WIDTH", 1000L);
+        ReflectionTestUtils.setField(sqmrde, "RELEASE_GRANULARITY", 1000L);
+        sqmrde.init();
+
+        ArgumentCaptor<PersistentMessagePublisher.MessagePublishReceiptListener> listener =
+                ArgumentCaptor.forClass(PersistentMessagePublisher.MessagePublishReceiptListener.class);
+        verify(messagePublisher).setMessagePublishReceiptListener(listener.capture());
+        when(outboundMessageBuilder.build(any(byte[].class), any(Properties.class))).thenReturn(Mockito.mock(OutboundMessage.class));
+        doAnswer(invocation -> {
+            PersistentMessagePublisher.PublishReceipt receipt = Mockito.mock(PersistentMessagePublisher.PublishReceipt.class);
+            when(receipt.getUserContext()).thenReturn(invocation.getArgument(2));
+            listener.getValue().onPublishReceipt(receipt);
+            return null;
+        }).when(messagePublisher).publish(any(OutboundMessage.class), any(Topic.class), any());
+
+        // Both messages are rounded up into the bucket due at 11000ms
+        sqmrde.submitTask(new DelayedSolaceMessage(inboundMessage, 500L, clock));
+        sqmrde.submitTask(new DelayedSolaceMessage(inboundMessage, 700L, clock));
+        nanoTime.set(TimeUnit.MILLISECONDS.toNanos(11000L));
+
+        verify(dmqReceiver, timeout(5000L).times(2)).ack(inboundMessage);
+        verify(messagePublisher, times(2)).publish(any(OutboundMessage.class), any(Topic.class), any());
+        verify(messagePublisher, never()).publishAwaitAcknowledgement(any(OutboundMessage.class), any(Topic.class), anyLong());
+
+        PendingRedeliverySnapshot snapshot = sqmrde.getPendingSnapshot();
+        assertEquals(0L, snapshot.getPendingTasks());
+        assertEquals(1L, snapshot.getReleaseBatches());
+        assertEquals(2d, snapshot.getAverageReleaseBatchSize());
+    }
+
+    @DisplayName("Bulk release publishes every message and acks each one on its publish receipt")
+    @Test
+    void testBulkRelease() {
+        when(outboundMessageBuilder.build(any(byte[].class), any(Properties.class))).thenReturn(Mockito.mock(OutboundMessage.class));
+        doAnswer(invocation -> {
+            PersistentMessagePublisher.PublishReceipt receipt = Mockito.mock(PersistentMessagePublisher.PublishReceipt.class);
+            when(receipt.getUserContext()).thenReturn(invocation.getArgument(2));
+            sqmrde.onPublishReceipt(receipt);
+            return null;
+        }).when(messagePublisher).publish(any(OutboundMessage.class), any(Topic.class), any());
+
+        sqmrde.executeTasks(Arrays.asList(new DelayedSolaceMessage(inboundMessage, 0L), new DelayedSolaceMessage(inboundMessage, 0L)));
+
+        verify(messagePublisher, times(2)).publish(any(OutboundMessage.class), any(Topic.class), any());
+        verify(dmqReceiver, times(2)).ack(inboundMessage);
+    }
+
+    @DisplayName("Bulk release leaves a message whose publish failed unacked, like the per-message path")
+    @Test
+    void testBulkReleaseFailedPublish() {
+        when(outboundMessageBuilder.build(any(byte[].class), any(Properties.class))).thenReturn(Mockito.mock(OutboundMessage.class));
+        doAnswer(invocation -> {
+            PersistentMessagePublisher.PublishReceipt receipt = Mockito.mock(PersistentMessagePublisher.PublishReceipt.class);
+            when(receipt.getUserContext()).thenReturn(invocation.getArgument(2));
+            when(receipt.getException()).thenReturn(Mockito.mock(PubSubPlusClientException.class));
+            sqmrde.onPublishReceipt(receipt);
+            return null;
+        }).when(messagePublisher).publish(any(OutboundMessage.class), any(Topic.class), any());
+
+        sqmrde.executeTasks(Collections.singletonList(new DelayedSolaceMessage(inboundMessage, 0L)));
+
+        verify(messagePublisher, times(1)).publish(any(OutboundMessage.class), any(Topic.class), any());
+        verify(dmqReceiver, never()).ack(inboundMessage);
+    }
+
+    @DisplayName("Bulk release leaves a message whose publish threw unacked, without waiting for a receipt")
+    @Test
+    void testBulkReleasePublishException() {
+        when(outboundMessageBuilder.build(any(byte[].class), any(Properties.class))).thenReturn(Mockito.mock(OutboundMessage.class));
+        doThrow(new IllegalStateException("Publisher is not ready")).when(messagePublisher).publish(any(OutboundMessage.class), any(Topic.class), any());
+
+        sqmrde.executeTasks(Collections.singletonList(new DelayedSolaceMessage(inboundMessage, 0L)));
+
+        verify(dmqReceiver, never()).ack(inboundMessage);
+    }
+
+    @DisplayName("A receipt for a message that has already been acked is ignored")
+    @Test
+    void testBulkReleaseDuplicateReceipt() {
+        when(outboundMessageBuilder.build(any(byte[].class), any(Properties.class))).thenReturn(Mockito.mock(OutboundMessage.class));
+        doAnswer(invocation -> {
+            PersistentMessagePublisher.PublishReceipt receipt = Mockito.mock(PersistentMessagePublisher.PublishReceipt.class);
+            when(receipt.getUserContext()).thenReturn(invocation.getArgument(2));
+            sqmrde.onPublishReceipt(receipt);
+            sqmrde.onPublishReceipt(receipt);
+            return null;
+        }).when(messagePublisher).publish(any(OutboundMessage.class), any(Topic.class), any());
+
+        sqmrde.executeTasks(Collections.singletonList(new DelayedSolaceMessage(inboundMessage, 0L)));
+
+        verify(dmqReceiver, times(1)).ack(inboundMessage);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.solace.redeliveryservice.simulator;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedeliverySimulatorTest {
+
+    RedeliverySimulator simulator;
+
+    @BeforeEach
+    void setup() {
+        simulator = new RedeliverySimulator();
+        simulator.setRedeliveryDelay(3000L);
+        simulator.setMaximumRedeliveryDelay(10000L);
+        simulator.setExponentialBackOffFactor(2L);
+        simulator.setQueueCapacity(1000);
+        simulator.setPerMessageOverhead(0L);
+    }
+
+    @DisplayName("Single message is released after the configured delay")
+    @Test
+    void testSingleMessage() {
+        SimulationReport report = simulator.run(Collections.singletonList(new TraceRecord(5000L, 100, 0)));
+
+        assertEquals(1, report.getMessagesReceived());
+        assertEquals(1, report.getMessagesRedelivered());
+        assertEquals(3000L, report.getSimulatedDuration());
+        assertEquals(0L, report.getMaximumLateness());
+        assertEquals(100L, report.getPeakMemoryBytes());
+        assertEquals(Arrays.asList(1, 1, 1), report.getQueueDepthSamples());
+    }
+
+    @DisplayName("Messages exceeding the maximum delay are not queued")
+    @Test
+    void testExceededThreshold() {
+        SimulationReport report = simulator.run(Arrays.asList(new TraceRecord(0L, 100, 1), new TraceRecord(0L, 100, 2)));
+
+        assertEquals(1, report.getMessagesRedelivered());
+        assertEquals(1, report.getMessagesExceedingThreshold());
+        assertEquals(6000L, report.getSimulatedDuration());
+    }
+
+    @DisplayName("Consumer waits for capacity when the queue is full")
+    @Test
+    void testCapacityWait() {
+        simulator.setQueueCapacity(1);
+
+        SimulationReport report = simulator.run(Arrays.asList(new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0)));
+
+        assertEquals(3, report.getCapacityWaits());
+        assertEquals(2, report.getMessagesRedelivered());
+        assertEquals(1, report.getPeakQueueDepth());
+        assertEquals(6000L, report.getSimulatedDuration());
+    }
+
+    @DisplayName("Publish latency delays the release of a burst with a single publisher")
+    @Test
+    void testReleaseBurstLateness() {
+        simulator.setPublishLatency(100L);
+        simulator.setPublisherConcurrency(1);
+
+        SimulationReport report = simulator.run(Arrays.asList(new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0)));
+
+        assertEquals(3, report.getPeakReleaseBurst());
+        assertEquals(200L, report.getMaximumLateness());
+        assertEquals(100d, report.getAverageLateness());
+        assertEquals(3, report.getPeakQueueDepth());
+        assertEquals(300L, report.getPeakMemoryBytes());
+    }
+
+    @DisplayName("Concurrent publishers release a burst with less lateness")
+    @Test
+    void testConcurrentPublishers() {
+        simulator.setPublishLatency(100L);
+        simulator.setPublisherConcurrency(2);
+
+        SimulationReport report = simulator.run(Arrays.asList(new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0)));
+
+        assertEquals(3, report.getMessagesRedelivered());
+        assertEquals(100L, report.getMaximumLateness());
+
+        simulator.setPublisherConcurrency(3);
+        assertEquals(0L, simulator.run(Arrays.asList(new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0), new TraceRecord(0L, 100, 0))).getMaximumLateness());
+    }
+
+    @DisplayName("Release granularity rounds due times up and releases each bucket as one batch")
+    @Test
+    void testReleaseGranularity() {
+        simulator.setReleaseGranularity(1000L);
+        simulator.setPublishLatency(100L);
+
+        SimulationReport report = simulator.run(Arrays.asList(new TraceRecord(250L, 100, 0), new TraceRecord(700L, 100, 0)));
+
+        assertEquals(2, report.getMessagesRedelivered());
+        assertEquals(1, report.getReleaseBatches());
+        assertEquals(2d, report.getAverageReleaseBatchSize());
+        assertEquals(2, report.getPeakReleaseBurst());
+        assertEquals(750L, report.getMaximumCoalescingDelay());
+        assertEquals(525d, report.getAverageCoalescingDelay());
+        assertEquals(0L, report.getMaximumLateness());
+        assertEquals(3750L, report.getSimulatedDuration());
+    }
+
+    @DisplayName("Simulated messages carry the redelivery count and payload size of their trace record")
+    @Test
+    void testSimulatedMessage() {
+        SimulatedDelayedMessage message = new SimulatedDelayedMessage(new TraceRecord(0L, 256, 3), 1000L, 0L, new VirtualClock(0L));
+
+        assertEquals(3, message.getRedeliveryCount());
+        assertEquals(256, message.getPayloadSize());
+    }
+
+    @DisplayName("Trace lines are parsed and comments are ignored")
+    @Test
+    void testParseTraceRecord() {
+        assertNull(TraceRecord.parse("# arrivalTimeMillis,payloadSizeBytes,redeliveryCount"));
+        assertNull(TraceRecord.parse("  "));
+
+        TraceRecord record = TraceRecord.parse("1000, 256, 3");
+        assertEquals(1000L, record.getArrivalTime());
+        assertEquals(256, record.getPayloadSize());
+        assertEquals(3, record.getRedeliveryCount());
+
+        assertThrows(IllegalArgumentException.class, () -> TraceRecord.parse("1000,256"));
+    }
+
+}